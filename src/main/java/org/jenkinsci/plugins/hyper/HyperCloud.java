@@ -143,7 +143,7 @@ public class HyperCloud extends Cloud {
             final String labelString = label == null ? null : label.toString();
             final String name = (label == null ? "" : labelString+"-") + Long.toHexString(System.nanoTime());
 
-            HyperSlave slave = new HyperSlave(HyperCloud.this, name, template.getRemoteFSRoot(), labelString, new ComputerLauncher() {
+            HyperSlave slave = new HyperSlave(HyperCloud.this, template, name, template.getRemoteFSRoot(), labelString, new ComputerLauncher() {
                 @Override
                 public void launch(SlaveComputer computer, TaskListener listener) throws IOException, InterruptedException {
                     String rootUrl = Jenkins.getInstance().getRootUrl();
@@ -170,11 +170,13 @@ public class HyperCloud extends Cloud {
                                 .stdout(out).stderr(listener.getLogger())
                                 .join();
 
-                        ((HyperSlave) computer.getNode()).setContainerId(out.toString("UTF-8").split("\n")[0]);
+                        HyperSlave node = (HyperSlave) computer.getNode();
+                        node.setContainerId(out.toString("UTF-8").split("\n")[0]);
 
                         if (status != 0) {
                             throw new IOException("Failed to create Hyper_ slave container. Status code " + status);
                         }
+                        node.onContainerCreated(System.currentTimeMillis());
                     }
                 }
 
@@ -200,7 +202,12 @@ public class HyperCloud extends Cloud {
             if (!slave.getComputer().isOnline()) {
                 LOGGER.log(Level.WARNING, "Hyper_ Slave {0} not connected since {1} seconds",
                         new Object[] { slave.getNodeName(), now });
-                Jenkins.getInstance().removeNode(slave);
+                try {
+                    // remove container, not just the node, so its provisioning time gets accounted
+                    slave.terminate();
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Failed to terminate Hyper_ slave " + slave.getNodeName(), e);
+                }
                 throw new IllegalStateException("Timeout waiting for Hyper_ slave to connect");
             }
 
@@ -25,9 +25,14 @@
 
 package org.jenkinsci.plugins.hyper;
 
+import hudson.Extension;
+import hudson.model.Computer;
 import hudson.model.Executor;
+import hudson.model.Item;
 import hudson.model.Queue;
+import hudson.model.TaskListener;
 import hudson.slaves.AbstractCloudComputer;
+import hudson.slaves.ComputerListener;
 
 import java.io.IOException;
 import java.util.logging.Level;
@@ -41,18 +46,43 @@ public class HyperComputer extends AbstractCloudComputer {
         super(slave);
     }
 
+    @Override
+    public HyperSlave getNode() {
+        return (HyperSlave) super.getNode();
+    }
+
+    @Override
+    public void taskAccepted(Executor executor, Queue.Task task) {
+        super.taskAccepted(executor, task);
+        HyperSlave slave = getNode();
+        if (slave != null) {
+            Queue.Task owner = task.getOwnerTask();
+            slave.onBuildStarted(owner instanceof Item ? ((Item) owner).getFullName() : owner.getFullDisplayName(),
+                    System.currentTimeMillis());
+        }
+    }
+
     @Override
     public void taskCompleted(Executor executor, Queue.Task task, long durationMS) {
         super.taskCompleted(executor, task, durationMS);
+        buildEnded();
         terminate();
     }
 
     @Override
     public void taskCompletedWithProblems(Executor executor, Queue.Task task, long durationMS, Throwable problems) {
         super.taskCompletedWithProblems(executor, task, durationMS, problems);
+        buildEnded();
         terminate();
     }
 
+    private void buildEnded() {
+        HyperSlave slave = getNode();
+        if (slave != null) {
+            slave.onBuildEnded(System.currentTimeMillis());
+        }
+    }
+
     /**
      * Computer is terminated after build completion so we enforce it will only be used once.
      */
@@ -65,4 +95,20 @@ public class HyperComputer extends AbstractCloudComputer {
         }
     }
 
+    /**
+     * Record the time Hyper_ slave actually connected, for provisioning time accounting.
+     */
+    @Extension
+    public static class OnlineListener extends ComputerListener {
+
+        @Override
+        public void onOnline(Computer c, TaskListener listener) {
+            if (c instanceof HyperComputer) {
+                HyperSlave slave = ((HyperComputer) c).getNode();
+                if (slave != null) {
+                    slave.onOnline(System.currentTimeMillis());
+                }
+            }
+        }
+    }
 }
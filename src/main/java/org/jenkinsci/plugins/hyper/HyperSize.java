@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, CloudBees, Inc.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ */
+
+package org.jenkinsci.plugins.hyper;
+
+import javax.annotation.CheckForNull;
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Hyper_ container sizes and their per-second price, as published on https://hyper.sh/pricing.html
+ */
+public enum HyperSize {
+
+    S1("S1", 0.0000004, "64MB Mem, 1 CPU Core, 10GB Disk"),
+    S2("S2", 0.0000006, "128MB Mem, 1 CPU Core, 10GB Disk"),
+    S3("S3", 0.000001, "256MB Mem, 1 CPU Core, 10GB Disk"),
+    S4("S4", 0.000002, "512MB Mem, 1 CPU Core, 10GB Disk"),
+    M1("M1", 0.000004, "1GB Mem, 1 CPU Core, 10GB Disk"),
+    M2("M2", 0.000008, "2GB Mem, 2 CPU Core, 10GB Disk"),
+    M3("M3", 0.000015, "4GB Mem, 2 CPU Core, 10GB Disk"),
+    L1("L1", 0.00003, "4GB Mem, 4 CPU Core, 10GB Disk"),
+    L2("L2", 0.00006, "8GB Mem, 4 CPU Core, 10GB Disk"),
+    L3("L3", 0.00012, "16GB Mem, 8 CPU Core, 10GB Disk");
+
+    private final String displayName;
+
+    /** Price in USD per second of container lifetime */
+    private final double pricePerSecond;
+
+    private final String resources;
+
+    HyperSize(String displayName, double pricePerSecond, String resources) {
+        this.displayName = displayName;
+        this.pricePerSecond = pricePerSecond;
+        this.resources = resources;
+    }
+
+    /** Value passed to <code>hyper run --size</code> */
+    public String getId() {
+        return name().toLowerCase();
+    }
+
+    public double getPricePerSecond() {
+        return pricePerSecond;
+    }
+
+    public double getPricePerHour() {
+        return pricePerSecond * 3600;
+    }
+
+    public String getDescription() {
+        return String.format("%s $%s/sec ($%s/hour): %s", displayName,
+                format(pricePerSecond), format(getPricePerHour()), resources);
+    }
+
+    /** Cost in USD for a container of this size running for given duration */
+    public double cost(long durationMillis) {
+        return pricePerSecond * durationMillis / 1000;
+    }
+
+    public static @CheckForNull HyperSize fromId(@CheckForNull String id) {
+        for (HyperSize s : values()) {
+            if (s.getId().equals(id)) {
+                return s;
+            }
+        }
+        return null;
+    }
+
+    private static String format(double price) {
+        return BigDecimal.valueOf(price).round(new MathContext(4)).stripTrailingZeros().toPlainString();
+    }
+}
@@ -34,7 +34,9 @@ import hudson.slaves.ComputerLauncher;
 import hudson.slaves.RetentionStrategy;
 import hudson.util.ArgumentListBuilder;
 import jenkins.model.Jenkins;
+import org.apache.commons.lang.StringUtils;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
@@ -49,9 +51,27 @@ public class HyperSlave extends AbstractCloudSlave {
     private final HyperCloud cloud;
     private String containerId;
 
-    public HyperSlave(HyperCloud cloud, @Nonnull String name, @Nullable String remoteFS, @Nullable String labelString, @Nonnull ComputerLauncher launcher) throws Descriptor.FormException, IOException {
+    /** Identifies the {@link HyperSlaveTemplate} this slave was provisioned from, for usage accounting */
+    private final String templateName;
+
+    /** Hyper_ Container size, used to compute cost */
+    private final String size;
+
+    /** Full name of the job this slave was used for, if any */
+    private volatile String jobName;
+
+    // Lifecycle timestamps (milliseconds since epoch, 0 if not reached yet), see HyperUsage
+    private volatile long created;
+    private volatile long online;
+    private volatile long buildStarted;
+    private volatile long buildEnded;
+    private volatile long removed;
+
+    public HyperSlave(HyperCloud cloud, HyperSlaveTemplate template, @Nonnull String name, @Nullable String remoteFS, @Nullable String labelString, @Nonnull ComputerLauncher launcher) throws Descriptor.FormException, IOException {
         super(name, "Hyper_ slave", remoteFS, 1, Mode.EXCLUSIVE, labelString, launcher, RetentionStrategy.NOOP, Collections.EMPTY_LIST);
         this.cloud = cloud;
+        this.templateName = cloud.name + "/" + StringUtils.defaultIfBlank(template.getLabel(), "(unlabeled)");
+        this.size = template.getSize();
     }
 
     @Override
@@ -79,6 +99,10 @@ public class HyperSlave extends AbstractCloudSlave {
                     throw new IOException("Failed to remove Hyper_ slave container " + containerId + ". Status code " + status);
                 }
             }
+
+            if (onRemoved(System.currentTimeMillis())) {
+                HyperUsage.get().record(this);
+            }
         }
     }
 
@@ -89,4 +113,66 @@ public class HyperSlave extends AbstractCloudSlave {
     public String getContainerId() {
         return containerId;
     }
+
+    public String getTemplateName() {
+        return templateName;
+    }
+
+    public String getSize() {
+        return size;
+    }
+
+    public @CheckForNull String getJobName() {
+        return jobName;
+    }
+
+    void onContainerCreated(long timestamp) {
+        created = timestamp;
+    }
+
+    void onOnline(long timestamp) {
+        if (online == 0) {
+            online = timestamp;
+        }
+    }
+
+    void onBuildStarted(String jobName, long timestamp) {
+        this.jobName = jobName;
+        buildStarted = timestamp;
+    }
+
+    void onBuildEnded(long timestamp) {
+        buildEnded = timestamp;
+    }
+
+    /**
+     * Mark container as removed.
+     * @return <code>true</code> if this slave's usage has to be recorded, i.e. container was created and this is
+     * the first removal, as slave can be terminated concurrently by build completion and "Delete slave".
+     */
+    synchronized boolean onRemoved(long timestamp) {
+        if (created == 0 || removed != 0) return false;
+        removed = timestamp;
+        return true;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getOnline() {
+        return online;
+    }
+
+    public long getBuildStarted() {
+        return buildStarted;
+    }
+
+    public long getBuildEnded() {
+        return buildEnded;
+    }
+
+    public long getRemoved() {
+        return removed;
+    }
 }
@@ -0,0 +1,490 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, CloudBees, Inc.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ */
+
+package org.jenkinsci.plugins.hyper;
+
+import hudson.BulkChange;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.init.Terminator;
+import hudson.model.Api;
+import hudson.model.Item;
+import hudson.model.PeriodicWork;
+import hudson.model.RootAction;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.StaplerProxy;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Container-seconds and cost spent on Hyper_ slaves, aggregated per template and per job.
+ * <p>
+ * Each {@link HyperSlave} reports its lifecycle timestamps once, when its container is removed. Those are folded
+ * into daily buckets (UTC, by removal time) kept in memory, and flushed to <code>$JENKINS_HOME/hyper-usage.xml</code>
+ * periodically. Buckets older than {@link #RETENTION_DAYS} are dropped on flush, and job entries follow job renames
+ * and deletions. Totals over retained days are exposed on <code>/hyper-usage</code> and its remote API.
+ */
+@Extension
+@ExportedBean
+public class HyperUsage implements RootAction, StaplerProxy, Saveable {
+
+    private static final Logger LOGGER = Logger.getLogger(HyperUsage.class.getName());
+
+    /** Number of days usage is kept for */
+    public static int RETENTION_DAYS = Integer.getInteger(HyperUsage.class.getName() + ".retentionDays", 30);
+
+    /** Key used for containers which have been removed without running any build */
+    public static final String NO_JOB = "(none)";
+
+    /** Daily buckets, by day since epoch */
+    private ConcurrentMap<Long, Day> days = new ConcurrentHashMap<Long, Day>();
+
+    /** Set when aggregates have changed since last flush */
+    private transient volatile boolean dirty;
+
+    public HyperUsage() {
+        XmlFile file = getConfigFile();
+        if (file.exists()) {
+            try {
+                file.unmarshal(this);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to load " + file, e);
+            }
+        }
+    }
+
+    public static HyperUsage get() {
+        return Jenkins.getInstance().getExtensionList(RootAction.class).get(HyperUsage.class);
+    }
+
+    /**
+     * Fold lifecycle of a removed slave into the template and job aggregates.
+     */
+    public void record(HyperSlave slave) {
+        final long created = slave.getCreated();
+        final long removed = slave.getRemoved();
+        if (created == 0 || removed < created) return;
+
+        final long container = removed - created;
+        final long provisioning = (slave.getOnline() != 0 ? slave.getOnline() : removed) - created;
+        long build = 0;
+        if (slave.getBuildStarted() != 0) {
+            build = (slave.getBuildEnded() != 0 ? slave.getBuildEnded() : removed) - slave.getBuildStarted();
+        }
+
+        HyperSize size = HyperSize.fromId(slave.getSize());
+        if (size == null) {
+            LOGGER.log(Level.FINE, "Unknown Hyper_ container size {0}, cost of {1} not accounted",
+                    new Object[] { slave.getSize(), slave.getNodeName() });
+        }
+        final double cost = size != null ? size.cost(container) : 0;
+
+        final String job = slave.getJobName() != null ? slave.getJobName() : NO_JOB;
+        Day day = getDay(TimeUnit.MILLISECONDS.toDays(removed));
+        add(day.templates, new Aggregate(slave.getTemplateName(), 1, container, provisioning, build, cost, removed));
+        add(day.jobs, new Aggregate(job, 1, container, provisioning, build, cost, removed));
+        dirty = true;
+    }
+
+    private Day getDay(long day) {
+        Day d = days.get(day);
+        if (d == null) {
+            Day created = new Day(day);
+            d = days.putIfAbsent(day, created);
+            if (d == null) d = created;
+        }
+        return d;
+    }
+
+    /**
+     * Aggregates are immutable, so they are updated with compare-and-set and a concurrent {@link #save()} only
+     * ever sees consistent records.
+     */
+    private static void add(ConcurrentMap<String, Aggregate> map, Aggregate a) {
+        while (true) {
+            Aggregate old = map.putIfAbsent(a.getName(), a);
+            if (old == null || map.replace(a.getName(), old, old.plus(a))) return;
+        }
+    }
+
+    /**
+     * Drop job entries for a deleted job, or for jobs inside a deleted folder.
+     */
+    void removeJob(String fullName) {
+        for (Day day : days.values()) {
+            Iterator<String> it = day.jobs.keySet().iterator();
+            while (it.hasNext()) {
+                String job = it.next();
+                if (job.equals(fullName) || job.startsWith(fullName + "/")) {
+                    it.remove();
+                    dirty = true;
+                }
+            }
+        }
+    }
+
+    void renameJob(String oldFullName, String newFullName) {
+        for (Day day : days.values()) {
+            Aggregate a = day.jobs.remove(oldFullName);
+            if (a != null) {
+                add(day.jobs, a.rename(newFullName));
+                dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Drop daily buckets older than {@link #RETENTION_DAYS}.
+     */
+    void prune(long now) {
+        long oldest = TimeUnit.MILLISECONDS.toDays(now) - RETENTION_DAYS + 1;
+        Iterator<Long> it = days.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next() < oldest) {
+                it.remove();
+                dirty = true;
+            }
+        }
+    }
+
+    /** Totals per template over retained days, most expensive first */
+    @Exported
+    public List<Aggregate> getTemplates() {
+        Map<String, Aggregate> totals = new HashMap<String, Aggregate>();
+        for (Day day : days.values()) {
+            sum(totals, day.templates.values());
+        }
+        return sorted(totals.values());
+    }
+
+    /** Totals per job over retained days, most expensive first */
+    @Exported
+    public List<Aggregate> getJobs() {
+        Map<String, Aggregate> totals = new HashMap<String, Aggregate>();
+        for (Day day : days.values()) {
+            sum(totals, day.jobs.values());
+        }
+        return sorted(totals.values());
+    }
+
+    /** Daily buckets, most recent first */
+    @Exported
+    public List<Day> getDays() {
+        List<Day> list = new ArrayList<Day>(days.values());
+        Collections.sort(list, new Comparator<Day>() {
+            @Override
+            public int compare(Day a, Day b) {
+                return Long.compare(b.day, a.day);
+            }
+        });
+        return list;
+    }
+
+    @Exported
+    public int getRetentionDays() {
+        return RETENTION_DAYS;
+    }
+
+    private static void sum(Map<String, Aggregate> totals, Collection<Aggregate> aggregates) {
+        for (Aggregate a : aggregates) {
+            Aggregate total = totals.get(a.getName());
+            totals.put(a.getName(), total == null ? a : total.plus(a));
+        }
+    }
+
+    private static List<Aggregate> sorted(Collection<Aggregate> aggregates) {
+        List<Aggregate> list = new ArrayList<Aggregate>(aggregates);
+        Collections.sort(list, new Comparator<Aggregate>() {
+            @Override
+            public int compare(Aggregate a, Aggregate b) {
+                return Double.compare(b.getCost(), a.getCost());
+            }
+        });
+        return list;
+    }
+
+    public Api getApi() {
+        return new Api(this);
+    }
+
+    @RequirePOST
+    public HttpResponse doReset() throws IOException {
+        Jenkins.getInstance().checkPermission(Jenkins.ADMINISTER);
+        days.clear();
+        dirty = false;
+        save();
+        return HttpResponses.forwardToPreviousPage();
+    }
+
+    /**
+     * Drop expired buckets and persist aggregates if they changed since last flush.
+     */
+    public void flush() {
+        prune(System.currentTimeMillis());
+        if (!dirty) return;
+        dirty = false;
+        try {
+            save();
+        } catch (IOException e) {
+            dirty = true;
+            LOGGER.log(Level.WARNING, "Failed to save Hyper_ usage", e);
+        }
+    }
+
+    @Override
+    public synchronized void save() throws IOException {
+        if (BulkChange.contains(this)) return;
+        XmlFile file = getConfigFile();
+        file.write(this);
+        SaveableListener.fireOnChange(this, file);
+    }
+
+    private XmlFile getConfigFile() {
+        return new XmlFile(Jenkins.XSTREAM, new File(Jenkins.getInstance().getRootDir(), "hyper-usage.xml"));
+    }
+
+    @Override
+    public Object getTarget() {
+        Jenkins.getInstance().checkPermission(Jenkins.ADMINISTER);
+        return this;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return Jenkins.getInstance().hasPermission(Jenkins.ADMINISTER) ? "graph.png" : null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Hyper_ Usage";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "hyper-usage";
+    }
+
+    @Terminator
+    public static void flushOnShutdown() {
+        get().flush();
+    }
+
+    /**
+     * Template and job aggregates for containers removed on a given (UTC) day.
+     */
+    @ExportedBean(defaultVisibility = 2)
+    public static class Day {
+
+        /** Days since epoch */
+        private final long day;
+
+        private final ConcurrentMap<String, Aggregate> templates = new ConcurrentHashMap<String, Aggregate>();
+
+        private final ConcurrentMap<String, Aggregate> jobs = new ConcurrentHashMap<String, Aggregate>();
+
+        Day(long day) {
+            this.day = day;
+        }
+
+        /** <code>yyyy-MM-dd</code> */
+        @Exported
+        public String getDate() {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            return format.format(new Date(TimeUnit.DAYS.toMillis(day)));
+        }
+
+        @Exported
+        public List<Aggregate> getTemplates() {
+            return sorted(templates.values());
+        }
+
+        @Exported
+        public List<Aggregate> getJobs() {
+            return sorted(jobs.values());
+        }
+    }
+
+    /**
+     * Usage totals for a template or a job. Immutable, see {@link HyperUsage#add(ConcurrentMap, Aggregate)}.
+     */
+    @ExportedBean(defaultVisibility = 3)
+    public static final class Aggregate {
+
+        private final String name;
+
+        /** Number of containers */
+        private final long containers;
+
+        /** Milliseconds from container creation to removal, this is what Hyper_ charges for */
+        private final long containerMillis;
+
+        /** Milliseconds from container creation to slave being online */
+        private final long provisioningMillis;
+
+        /** Milliseconds spent running builds */
+        private final long buildMillis;
+
+        /** Cost in USD */
+        private final double cost;
+
+        private final long lastUpdated;
+
+        public Aggregate(String name, long containers, long containerMillis, long provisioningMillis, long buildMillis, double cost, long lastUpdated) {
+            this.name = name;
+            this.containers = containers;
+            this.containerMillis = containerMillis;
+            this.provisioningMillis = provisioningMillis;
+            this.buildMillis = buildMillis;
+            this.cost = cost;
+            this.lastUpdated = lastUpdated;
+        }
+
+        Aggregate plus(Aggregate other) {
+            return new Aggregate(name,
+                    containers + other.containers,
+                    containerMillis + other.containerMillis,
+                    provisioningMillis + other.provisioningMillis,
+                    buildMillis + other.buildMillis,
+                    cost + other.cost,
+                    Math.max(lastUpdated, other.lastUpdated));
+        }
+
+        Aggregate rename(String name) {
+            return new Aggregate(name, containers, containerMillis, provisioningMillis, buildMillis, cost, lastUpdated);
+        }
+
+        @Exported
+        public String getName() {
+            return name;
+        }
+
+        @Exported
+        public long getContainers() {
+            return containers;
+        }
+
+        @Exported
+        public long getContainerSeconds() {
+            return TimeUnit.MILLISECONDS.toSeconds(containerMillis);
+        }
+
+        @Exported
+        public long getProvisioningSeconds() {
+            return TimeUnit.MILLISECONDS.toSeconds(provisioningMillis);
+        }
+
+        @Exported
+        public long getBuildSeconds() {
+            return TimeUnit.MILLISECONDS.toSeconds(buildMillis);
+        }
+
+        /** Container time not spent running a build, including provisioning */
+        @Exported
+        public long getIdleSeconds() {
+            return TimeUnit.MILLISECONDS.toSeconds(containerMillis - buildMillis);
+        }
+
+        /** Ratio of container time spent running builds, from 0 to 1 */
+        @Exported
+        public double getUtilization() {
+            return containerMillis == 0 ? 0 : (double) buildMillis / containerMillis;
+        }
+
+        @Exported
+        public double getCost() {
+            return cost;
+        }
+
+        @Exported
+        public long getLastUpdated() {
+            return lastUpdated;
+        }
+
+        public String getFormattedCost() {
+            return String.format("$%.4f", cost);
+        }
+
+        public String getFormattedUtilization() {
+            return String.format("%.1f%%", getUtilization() * 100);
+        }
+    }
+
+    @Extension
+    public static class Flusher extends PeriodicWork {
+
+        @Override
+        public long getRecurrencePeriod() {
+            return TimeUnit.MINUTES.toMillis(5);
+        }
+
+        @Override
+        protected void doRun() throws Exception {
+            get().flush();
+        }
+    }
+
+    /**
+     * Keep job aggregates in sync with renamed and deleted jobs.
+     */
+    @Extension
+    public static class JobListener extends ItemListener {
+
+        @Override
+        public void onDeleted(Item item) {
+            get().removeJob(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            get().renameJob(oldFullName, newFullName);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, CloudBees, Inc.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ */
+
+package org.jenkinsci.plugins.hyper;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class HyperSizeTest {
+
+    @Test
+    public void description() {
+        assertEquals("S1 $0.0000004/sec ($0.00144/hour): 64MB Mem, 1 CPU Core, 10GB Disk", HyperSize.S1.getDescription());
+        assertEquals("S2 $0.0000006/sec ($0.00216/hour): 128MB Mem, 1 CPU Core, 10GB Disk", HyperSize.S2.getDescription());
+        assertEquals("S3 $0.000001/sec ($0.0036/hour): 256MB Mem, 1 CPU Core, 10GB Disk", HyperSize.S3.getDescription());
+        assertEquals("S4 $0.000002/sec ($0.0072/hour): 512MB Mem, 1 CPU Core, 10GB Disk", HyperSize.S4.getDescription());
+        assertEquals("M1 $0.000004/sec ($0.0144/hour): 1GB Mem, 1 CPU Core, 10GB Disk", HyperSize.M1.getDescription());
+        assertEquals("M2 $0.000008/sec ($0.0288/hour): 2GB Mem, 2 CPU Core, 10GB Disk", HyperSize.M2.getDescription());
+        assertEquals("M3 $0.000015/sec ($0.054/hour): 4GB Mem, 2 CPU Core, 10GB Disk", HyperSize.M3.getDescription());
+        assertEquals("L1 $0.00003/sec ($0.108/hour): 4GB Mem, 4 CPU Core, 10GB Disk", HyperSize.L1.getDescription());
+        assertEquals("L2 $0.00006/sec ($0.216/hour): 8GB Mem, 4 CPU Core, 10GB Disk", HyperSize.L2.getDescription());
+        assertEquals("L3 $0.00012/sec ($0.432/hour): 16GB Mem, 8 CPU Core, 10GB Disk", HyperSize.L3.getDescription());
+    }
+
+    @Test
+    public void cost() {
+        assertEquals(0.00144, HyperSize.S1.cost(3600 * 1000), 1e-12);
+        assertEquals(0.0000006, HyperSize.S2.cost(1000), 1e-12);
+        assertEquals(0.0036, HyperSize.S3.cost(3600 * 1000), 1e-12);
+        assertEquals(0.0144, HyperSize.M1.cost(3600 * 1000), 1e-12);
+        assertEquals(0.054, HyperSize.M3.cost(3600 * 1000), 1e-12);
+        assertEquals(0.432, HyperSize.L3.cost(3600 * 1000), 1e-12);
+        assertEquals(0.00006, HyperSize.L3.cost(500), 1e-12);
+        assertEquals(0, HyperSize.L3.cost(0), 0);
+    }
+
+    @Test
+    public void fromId() {
+        assertEquals(HyperSize.S4, HyperSize.fromId("s4"));
+        assertEquals(HyperSize.L2, HyperSize.fromId("l2"));
+        assertNull(HyperSize.fromId("xl"));
+        assertNull(HyperSize.fromId(null));
+    }
+}
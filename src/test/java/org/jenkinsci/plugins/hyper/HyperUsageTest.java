@@ -0,0 +1,224 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, CloudBees, Inc.
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ */
+
+package org.jenkinsci.plugins.hyper;
+
+import hudson.slaves.JNLPLauncher;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HyperUsageTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    private HyperUsage usage;
+
+    private long now;
+
+    @Before
+    public void setUp() {
+        usage = new HyperUsage();
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    public void record() throws Exception {
+        HyperSlave slave = slave("docker", "s3");
+        slave.onContainerCreated(now);
+        slave.onOnline(now + 20000);
+        slave.onBuildStarted("folder/job", now + 21000);
+        slave.onBuildEnded(now + 81000);
+        assertTrue(slave.onRemoved(now + 100000));
+        usage.record(slave);
+
+        HyperUsage.Aggregate template = find(usage.getTemplates(), "cloud/docker");
+        assertEquals(1, template.getContainers());
+        assertEquals(100, template.getContainerSeconds());
+        assertEquals(20, template.getProvisioningSeconds());
+        assertEquals(60, template.getBuildSeconds());
+        assertEquals(40, template.getIdleSeconds());
+        assertEquals(0.6, template.getUtilization(), 1e-9);
+        assertEquals(HyperSize.S3.cost(100000), template.getCost(), 1e-12);
+
+        HyperUsage.Aggregate job = find(usage.getJobs(), "folder/job");
+        assertEquals(1, job.getContainers());
+        assertEquals(100, job.getContainerSeconds());
+        assertEquals(HyperSize.S3.cost(100000), job.getCost(), 1e-12);
+    }
+
+    @Test
+    public void aggregatesContainersOfSameTemplate() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            HyperSlave slave = slave("docker", "m1");
+            slave.onContainerCreated(now);
+            slave.onOnline(now + 10000);
+            slave.onBuildStarted("job" + i, now + 10000);
+            slave.onBuildEnded(now + 20000);
+            slave.onRemoved(now + 30000);
+            usage.record(slave);
+        }
+
+        assertEquals(1, usage.getTemplates().size());
+        HyperUsage.Aggregate template = find(usage.getTemplates(), "cloud/docker");
+        assertEquals(3, template.getContainers());
+        assertEquals(90, template.getContainerSeconds());
+        assertEquals(30, template.getBuildSeconds());
+        assertEquals(HyperSize.M1.cost(90000), template.getCost(), 1e-12);
+        assertEquals(3, usage.getJobs().size());
+    }
+
+    @Test
+    public void neverOnline() throws Exception {
+        HyperSlave slave = slave("docker", "s1");
+        slave.onContainerCreated(now);
+        slave.onRemoved(now + 900000);
+        usage.record(slave);
+
+        HyperUsage.Aggregate template = find(usage.getTemplates(), "cloud/docker");
+        assertEquals(900, template.getContainerSeconds());
+        assertEquals(900, template.getProvisioningSeconds());
+        assertEquals(0, template.getBuildSeconds());
+        assertEquals(900, template.getIdleSeconds());
+
+        HyperUsage.Aggregate job = find(usage.getJobs(), HyperUsage.NO_JOB);
+        assertEquals(1, job.getContainers());
+    }
+
+    @Test
+    public void buildNeverEnded() throws Exception {
+        HyperSlave slave = slave("docker", "s1");
+        slave.onContainerCreated(now);
+        slave.onOnline(now + 5000);
+        slave.onBuildStarted("job", now + 10000);
+        slave.onRemoved(now + 40000);
+        usage.record(slave);
+
+        assertEquals(30, find(usage.getJobs(), "job").getBuildSeconds());
+    }
+
+    @Test
+    public void unknownSize() throws Exception {
+        HyperSlave slave = slave("docker", "xl");
+        slave.onContainerCreated(now);
+        slave.onRemoved(now + 60000);
+        usage.record(slave);
+
+        HyperUsage.Aggregate template = find(usage.getTemplates(), "cloud/docker");
+        assertEquals(1, template.getContainers());
+        assertEquals(60, template.getContainerSeconds());
+        assertEquals(0, template.getCost(), 0);
+    }
+
+    @Test
+    public void notCreated() throws Exception {
+        HyperSlave slave = slave("docker", "s1");
+        assertFalse(slave.onRemoved(now));
+        usage.record(slave);
+        assertTrue(usage.getTemplates().isEmpty());
+        assertTrue(usage.getJobs().isEmpty());
+    }
+
+    @Test
+    public void removedBeforeCreated() throws Exception {
+        HyperSlave slave = slave("docker", "s1");
+        slave.onContainerCreated(now + 1000);
+        slave.onRemoved(now);
+        usage.record(slave);
+        assertTrue(usage.getTemplates().isEmpty());
+    }
+
+    @Test
+    public void removedOnce() throws Exception {
+        HyperSlave slave = slave("docker", "s1");
+        slave.onContainerCreated(now);
+        assertTrue(slave.onRemoved(now + 1000));
+        assertFalse(slave.onRemoved(now + 2000));
+        assertEquals(now + 1000, slave.getRemoved());
+    }
+
+    @Test
+    public void jobRenamedAndDeleted() throws Exception {
+        for (String job : new String[] { "a", "folder/b", "folder/c" }) {
+            HyperSlave slave = slave("docker", "s1");
+            slave.onContainerCreated(now);
+            slave.onBuildStarted(job, now);
+            slave.onRemoved(now + 1000);
+            usage.record(slave);
+        }
+
+        usage.renameJob("a", "renamed");
+        assertNull(find(usage.getJobs(), "a"));
+        assertEquals(1, find(usage.getJobs(), "renamed").getContainers());
+
+        usage.removeJob("folder");
+        assertEquals(1, usage.getJobs().size());
+        assertEquals(3, find(usage.getTemplates(), "cloud/docker").getContainers());
+    }
+
+    @Test
+    public void prune() throws Exception {
+        HyperSlave old = slave("docker", "s1");
+        old.onContainerCreated(now - TimeUnit.DAYS.toMillis(HyperUsage.RETENTION_DAYS + 1));
+        old.onRemoved(now - TimeUnit.DAYS.toMillis(HyperUsage.RETENTION_DAYS));
+        usage.record(old);
+
+        HyperSlave recent = slave("docker", "s1");
+        recent.onContainerCreated(now);
+        recent.onRemoved(now + 1000);
+        usage.record(recent);
+
+        assertEquals(2, usage.getDays().size());
+        assertEquals(2, find(usage.getTemplates(), "cloud/docker").getContainers());
+
+        usage.prune(now);
+        assertEquals(1, usage.getDays().size());
+        assertEquals(1, find(usage.getTemplates(), "cloud/docker").getContainers());
+    }
+
+    private HyperSlave slave(String label, String size) throws Exception {
+        HyperSlaveTemplate template = new HyperSlaveTemplate(label, "jenkinsci/jnlp-slave", size, "/home/jenkins");
+        HyperCloud cloud = new HyperCloud("cloud", null, "credentials", Collections.singletonList(template));
+        return new HyperSlave(cloud, template, "slave" + System.nanoTime(), "/home/jenkins", label, new JNLPLauncher());
+    }
+
+    private static HyperUsage.Aggregate find(List<HyperUsage.Aggregate> aggregates, String name) {
+        for (HyperUsage.Aggregate a : aggregates) {
+            if (a.getName().equals(name)) return a;
+        }
+        return null;
+    }
+}